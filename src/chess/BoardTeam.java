@@ -0,0 +1,31 @@
+package chess;
+
+import chess.composite.ChessTeam;
+import chess.pieces.Piece;
+
+/**
+ * Piece list owned by a ChessBoard.
+ * Opens the team mutators to the chess package only, so the board and its builder can
+ * keep the list in sync with the grid while everyone else gets a read-only ChessTeam.
+ */
+class BoardTeam extends ChessTeam {
+    @Override
+    protected void addPiece(Piece piece, int square) {
+        super.addPiece(piece, square);
+    }
+
+    @Override
+    protected void removePiece(int square) {
+        super.removePiece(square);
+    }
+
+    @Override
+    protected void movePiece(int from, int to) {
+        super.movePiece(from, to);
+    }
+
+    @Override
+    protected void clear() {
+        super.clear();
+    }
+}
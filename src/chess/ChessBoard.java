@@ -1,6 +1,9 @@
 package chess;
 
+import chess.composite.ChessTeam;
 import chess.pieces.King;
+import chess.pieces.Knight;
+import chess.pieces.Pawn;
 import chess.pieces.Piece;
 
 /**
@@ -8,12 +11,36 @@ import chess.pieces.Piece;
  */
 public class ChessBoard {
     protected final Piece[][] board; // 8x8 board grid
+    protected final BoardTeam white; // Live White pieces, kept in sync with the grid
+    protected final BoardTeam black; // Live Black pieces, kept in sync with the grid
 
     /**
      * Constructor for ChessBoard (only accessible by ChessBoardBuilder).
      */
     protected ChessBoard() {
         board = new Piece[8][8];
+        white = new BoardTeam();
+        black = new BoardTeam();
+    }
+
+    /**
+     * Returns the team of the given color.
+     *
+     * @param color The team color ("White" or "Black").
+     * @return The team's live piece list, read-only outside the chess package.
+     */
+    public ChessTeam getTeam(String color) {
+        return team(color);
+    }
+
+    /**
+     * Returns the modifiable piece list of the given color.
+     *
+     * @param color The team color ("White" or "Black").
+     * @return The team's live piece list.
+     */
+    BoardTeam team(String color) {
+        return color.equals("White") ? white : black;
     }
 
     /**
@@ -75,24 +102,61 @@ public class ChessBoard {
             return false; // Cannot capture own piece
         }
 
-        if (!(piece instanceof King) && isPathBlocked(x1, y1, x2, y2)) {
-            return false; // Path-blocking rule applies to most pieces
+        if (piece instanceof Pawn && (x1 == x2) != (board[x2][y2] == null)) {
+            return false; // Pawns move straight onto empty squares and capture diagonally
+        }
+
+        if (!(piece instanceof King) && !(piece instanceof Knight) && isPathBlocked(x1, y1, x2, y2)) {
+            return false; // Path-blocking rule applies to most pieces; Knights jump
         }
 
         // Store captured piece temporarily
         Piece temp = board[x2][y2];
         board[x2][y2] = piece;
         board[x1][y1] = null;
+        if (temp != null) {
+            team(temp.getColor()).removePiece(y2 * 8 + x2);
+        }
+        team(piece.getColor()).movePiece(y1 * 8 + x1, y2 * 8 + x2);
 
         // Prevent moves that put the player's king in check
         if (isKingInCheck(piece.getColor())) {
-            board[x1][y1] = piece;
-            board[x2][y2] = temp;
+            undoMove(x1, y1, x2, y2, temp);
             return false; // Illegal move (would leave the King in check)
         }
         return true;
     }
 
+    /**
+     * Reverts a move previously made with {@link #movePiece(int, int, int, int)}.
+     *
+     * @param x1       Start X-coordinate of the move being undone.
+     * @param y1       Start Y-coordinate of the move being undone.
+     * @param x2       Destination X-coordinate of the move being undone.
+     * @param y2       Destination Y-coordinate of the move being undone.
+     * @param captured The piece that stood on the destination square before the move, or null.
+     */
+    public void undoMove(int x1, int y1, int x2, int y2, Piece captured) {
+        Piece piece = board[x2][y2];
+        board[x1][y1] = piece;
+        board[x2][y2] = captured;
+        team(piece.getColor()).movePiece(y2 * 8 + x2, y1 * 8 + x1);
+        if (captured != null) {
+            team(captured.getColor()).addPiece(captured, y2 * 8 + x2);
+        }
+    }
+
+    /**
+     * Returns the piece at the given position.
+     *
+     * @param x X-coordinate.
+     * @param y Y-coordinate.
+     * @return The piece on that square, or null if the square is empty.
+     */
+    public Piece getPiece(int x, int y) {
+        return board[x][y];
+    }
+
     /**
      * Prints the chessboard to the console.
      */
@@ -133,30 +197,50 @@ public class ChessBoard {
      * @return True if the King is in check, false otherwise.
      */
     public boolean isKingInCheck(String color) {
-        int kingX = -1, kingY = -1;
-
-        // Locate the king on the board
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if (board[i][j] instanceof King && board[i][j].getColor().equals(color)) {
-                    kingX = i;
-                    kingY = j;
-                    break;
-                }
+        ChessTeam own = getTeam(color);
+        int kingSquare = -1;
+
+        // Locate the king in the player's piece list
+        for (int i = 0; i < own.size(); i++) {
+            if (own.getPiece(i) instanceof King) {
+                kingSquare = own.getSquare(i);
+                break;
             }
         }
 
-        if (kingX == -1) return false; // King not found (should never happen)
+        if (kingSquare == -1) return false; // King not found (should never happen)
+        int kingX = kingSquare % 8, kingY = kingSquare / 8;
 
         // Check if any opponent piece can attack the king
-        for (int i = 0; i < 8; i++) {
-            for (int j = 0; j < 8; j++) {
-                if (board[i][j] != null && !board[i][j].getColor().equals(color) &&
-                        board[i][j].isValidMove(i, j, kingX, kingY)) {
-                    return true; // King is in check
-                }
+        ChessTeam opponent = own == white ? black : white;
+        for (int i = 0; i < opponent.size(); i++) {
+            int square = opponent.getSquare(i);
+            if (attacks(opponent.getPiece(i), square % 8, square / 8, kingX, kingY)) {
+                return true; // King is in check
             }
         }
         return false;
     }
+
+    /**
+     * Checks if a piece attacks a square, taking blocking pieces into account.
+     *
+     * @param piece The attacking piece.
+     * @param x1    X-coordinate of the attacking piece.
+     * @param y1    Y-coordinate of the attacking piece.
+     * @param x2    X-coordinate of the attacked square.
+     * @param y2    Y-coordinate of the attacked square.
+     * @return True if the piece attacks the square, false otherwise.
+     */
+    private boolean attacks(Piece piece, int x1, int y1, int x2, int y2) {
+        if (piece instanceof Pawn) {
+            // Pawns only attack diagonally forward
+            int direction = piece.getColor().equals("White") ? 1 : -1;
+            return Math.abs(x1 - x2) == 1 && y2 == y1 + direction;
+        }
+        if (!piece.isValidMove(x1, y1, x2, y2)) {
+            return false;
+        }
+        return piece instanceof King || piece instanceof Knight || !isPathBlocked(x1, y1, x2, y2);
+    }
 }
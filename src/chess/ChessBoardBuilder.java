@@ -1,5 +1,6 @@
 package chess;
 
+import chess.pieces.Piece;
 import chess.pieces.PieceFactory;
 
 // CREATIONAL: Builder
@@ -27,7 +28,13 @@ public class ChessBoardBuilder {
      * @return The updated builder instance.
      */
     public ChessBoardBuilder addPiece(String type, String color, int x, int y) {
-        chessBoard.board[x][y] = PieceFactory.createPiece(type, color);
+        Piece replaced = chessBoard.board[x][y];
+        if (replaced != null) {
+            chessBoard.team(replaced.getColor()).removePiece(y * 8 + x);
+        }
+        Piece piece = PieceFactory.createPiece(type, color);
+        chessBoard.board[x][y] = piece;
+        chessBoard.team(color).addPiece(piece, y * 8 + x);
         return this;
     }
 
@@ -54,6 +61,75 @@ public class ChessBoardBuilder {
         return this;
     }
 
+    /**
+     * Sets up the board from the piece-placement field of a FEN string
+     * (e.g. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR").
+     *
+     * @param placement The FEN piece-placement field, from rank 8 down to rank 1.
+     * @return The updated builder instance.
+     * @throws IllegalArgumentException if the placement is malformed.
+     */
+    public ChessBoardBuilder setupFromFen(String placement) {
+        String[] ranks = placement.split("/");
+        if (ranks.length != 8) {
+            throw new IllegalArgumentException("Invalid FEN placement: " + placement);
+        }
+
+        for (int r = 0; r < 8; r++) {
+            int y = 7 - r; // FEN lists rank 8 first
+            int x = 0;
+            for (char c : ranks[r].toCharArray()) {
+                if (Character.isDigit(c)) {
+                    x += c - '0'; // Run of empty squares
+                } else if (x < 8) {
+                    this.addPiece(fenPieceType(c), Character.isUpperCase(c) ? "White" : "Black", x++, y);
+                } else {
+                    x++;
+                }
+            }
+            if (x != 8) {
+                throw new IllegalArgumentException("Invalid FEN rank: " + ranks[r]);
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Removes every piece from the board so the builder can set up a new position
+     * on the same ChessBoard instance.
+     *
+     * @return The updated builder instance.
+     */
+    public ChessBoardBuilder clear() {
+        // Only occupied squares need clearing, and the piece lists know where they are
+        for (BoardTeam team : new BoardTeam[]{chessBoard.white, chessBoard.black}) {
+            for (int i = 0; i < team.size(); i++) {
+                int square = team.getSquare(i);
+                chessBoard.board[square % 8][square / 8] = null;
+            }
+            team.clear();
+        }
+        return this;
+    }
+
+    /**
+     * Maps a FEN piece letter to the piece type used by PieceFactory.
+     *
+     * @param c The FEN letter (upper case for White, lower case for Black).
+     * @return The piece type name.
+     */
+    private static String fenPieceType(char c) {
+        return switch (Character.toLowerCase(c)) {
+            case 'p' -> "Pawn";
+            case 'n' -> "Knight";
+            case 'b' -> "Bishop";
+            case 'r' -> "Rook";
+            case 'q' -> "Queen";
+            case 'k' -> "King";
+            default -> throw new IllegalArgumentException("Invalid FEN piece: " + c);
+        };
+    }
+
     /**
      * Builds and returns the ChessBoard instance.
      *
@@ -1,7 +1,10 @@
 package chess;
 
+import chess.journal.MoveJournal;
 import chess.observers.Observer;
 import chess.observers.GameLogger;
+import chess.pieces.Pawn;
+import chess.pieces.Piece;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -12,6 +15,14 @@ public class ChessGame {
     private ChessBoard board;
     private String turn; // Current player's turn ("White" or "Black")
     private final List<Observer> observers; // List of observers for logging moves
+    private final PositionHistory history; // Position hashes since the start, for draw detection
+    private long hash; // Zobrist hash of the current position
+    private boolean draw; // True once the game is drawn by repetition or the 50-move rule
+    private int ply; // Number of moves made so far
+    private volatile Position snapshot; // Latest immutable position, read by other threads without locking
+    private MoveJournal journal; // Write-ahead journal the moves are recorded in, or null
+    private long gameId; // Id of this game in the journal, or -1
+    private boolean ended; // True once the game is over and its end is journaled
 
     /**
      * Constructor for ChessGame.
@@ -21,6 +32,11 @@ public class ChessGame {
         this.board = new ChessBoardBuilder().setupStandardBoard().build();
         this.turn = "White"; // White moves first
         this.observers = new ArrayList<>();
+        this.hash = Zobrist.hash(board, turn);
+        this.history = new PositionHistory();
+        this.history.reset(hash, 0);
+        this.snapshot = Position.of(board, turn, 0, 0, hash, false);
+        this.gameId = -1;
     }
 
     /**
@@ -32,6 +48,53 @@ public class ChessGame {
         observers.add(observer);
     }
 
+    /**
+     * Attaches a journal that records every move made from now on.
+     *
+     * @param journal The journal.
+     * @param gameId  Id of this game in the journal.
+     */
+    public void setJournal(MoveJournal journal, long gameId) {
+        this.journal = journal;
+        this.gameId = gameId;
+    }
+
+    /**
+     * Gets the id of this game in the attached journal.
+     *
+     * @return The game id, or -1 if no journal is attached.
+     */
+    public long getGameId() {
+        return gameId;
+    }
+
+    /**
+     * Ends the game, e.g. after checkmate, resignation or abandonment. No further moves are
+     * accepted, and the end is journaled so the game is not recovered after a restart.
+     * Drawn games are ended automatically; calling this again has no effect.
+     *
+     * @throws IllegalStateException if the attached journal is closed; the game stays open.
+     * @throws java.io.UncheckedIOException if the journal cannot record the end; the game stays open.
+     */
+    public void endGame() {
+        if (ended) {
+            return;
+        }
+        if (journal != null) {
+            journal.endGame(gameId);
+        }
+        ended = true;
+    }
+
+    /**
+     * Checks whether the game is over, either ended by {@link #endGame()} or drawn.
+     *
+     * @return True if no further moves are accepted.
+     */
+    public boolean isEnded() {
+        return ended || draw;
+    }
+
     /**
      * Prints the current state of the chessboard.
      */
@@ -39,6 +102,34 @@ public class ChessGame {
         board.printBoard();
     }
 
+    /**
+     * Returns an immutable snapshot of the current position.
+     * Safe to call from any thread; it never blocks the thread making moves.
+     *
+     * @return The position after the most recent move.
+     */
+    public Position getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Checks whether the game is drawn by threefold repetition or the 50-move rule.
+     *
+     * @return True if the game is drawn.
+     */
+    public boolean isDraw() {
+        return draw;
+    }
+
+    /**
+     * Gets the number of plies since the last capture or pawn move.
+     *
+     * @return The halfmove clock.
+     */
+    public int getHalfmoveClock() {
+        return history.getHalfmoveClock();
+    }
+
     /**
      * Attempts to make a move on the chessboard.
      *
@@ -46,23 +137,126 @@ public class ChessGame {
      * @param y1 Start Y-coordinate.
      * @param x2 Destination X-coordinate.
      * @param y2 Destination Y-coordinate.
-     * @return True if the move is successful, false otherwise.
+     * @return True if the move is successful, false otherwise (including once the game is over).
+     * @throws IllegalStateException if the attached journal is closed; the move is taken back.
+     * @throws java.io.UncheckedIOException if the journal cannot record the move; the move is taken back.
      */
     public boolean makeMove(int x1, int y1, int x2, int y2) {
-        if (board.movePiece(x1, y1, x2, y2)) {
-            turn = turn.equals("White") ? "Black" : "White"; // Switch turn
+        Piece captured = x2 >= 0 && x2 < 8 && y2 >= 0 && y2 < 8 ? board.board[x2][y2] : null;
+        if (!applyMove(x1, y1, x2, y2)) {
+            return false;
+        }
 
-            // Notify if the King is in check
-            if (board.isKingInCheck(turn)) {
-                System.out.println(turn + " King is in check!");
+        // Journal the move so the game survives a crash
+        if (journal != null) {
+            try {
+                journal.recordMove(gameId, x1, y1, x2, y2);
+            } catch (RuntimeException e) {
+                undoLastMove(x1, y1, x2, y2, captured); // Game and journal must not diverge
+                throw e;
             }
+        }
+
+        // Publish the new position only once it is certain to stand
+        publishSnapshot();
 
-            // Notify all observers of the move
-            for (Observer observer : observers) {
-                observer.update(String.format("Move: %d%d -> %d%d", x1, y1, x2, y2));
+        if (draw) {
+            try {
+                endGame();
+            } catch (RuntimeException e) {
+                // The move is journaled; recovery replays the game to this draw and ends it there
             }
-            return true;
         }
-        return false;
+
+        if (draw) {
+            System.out.println(history.isThreefoldRepetition()
+                    ? "Draw by threefold repetition!" : "Draw by the 50-move rule!");
+        }
+
+        // Notify if the King is in check
+        if (board.isKingInCheck(turn)) {
+            System.out.println(turn + " King is in check!");
+        }
+
+        // Notify all observers of the move
+        for (Observer observer : observers) {
+            observer.update(String.format("Move: %d%d -> %d%d", x1, y1, x2, y2));
+        }
+        return true;
+    }
+
+    /**
+     * Rebuilds a game by replaying its moves, without notifying observers or journaling.
+     * Used by MoveJournal during recovery; the returned game has no journal attached.
+     *
+     * @param moves Moves packed as x1 << 9 | y1 << 6 | x2 << 3 | y2.
+     * @param count Number of moves to replay.
+     * @return The rebuilt game.
+     * @throws IllegalArgumentException if a move cannot be replayed.
+     */
+    public static ChessGame replay(short[] moves, int count) {
+        ChessGame game = new ChessGame();
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (!game.applyMove(move >> 9 & 7, move >> 6 & 7, move >> 3 & 7, move & 7)) {
+                throw new IllegalArgumentException("Move " + (i + 1) + " cannot be replayed");
+            }
+        }
+        game.publishSnapshot();
+        return game;
+    }
+
+    /**
+     * Applies a move to the board and history, without publishing a snapshot or any notifications.
+     *
+     * @param x1 Start X-coordinate.
+     * @param y1 Start Y-coordinate.
+     * @param x2 Destination X-coordinate.
+     * @param y2 Destination Y-coordinate.
+     * @return True if the move is successful, false otherwise (including once the game is over).
+     */
+    private boolean applyMove(int x1, int y1, int x2, int y2) {
+        if (ended || draw) {
+            return false; // No moves after the game has ended
+        }
+
+        Piece captured = x2 >= 0 && x2 < 8 && y2 >= 0 && y2 < 8 ? board.board[x2][y2] : null;
+        if (!board.movePiece(x1, y1, x2, y2)) {
+            return false;
+        }
+        Piece piece = board.board[x2][y2];
+        turn = turn.equals("White") ? "Black" : "White"; // Switch turn
+
+        // Record the new position; captures and pawn moves can never be repeated
+        hash ^= Zobrist.moveKey(piece, captured, x1, y1, x2, y2);
+        history.push(hash, captured != null || piece instanceof Pawn);
+        draw = history.isThreefoldRepetition() || history.isFiftyMoveRule();
+        ply++;
+        return true;
+    }
+
+    /**
+     * Publishes the current position for concurrent readers.
+     */
+    private void publishSnapshot() {
+        snapshot = Position.of(board, turn, ply, history.getHalfmoveClock(), hash, draw);
+    }
+
+    /**
+     * Takes back the move just made with {@link #applyMove(int, int, int, int)}.
+     *
+     * @param x1       Start X-coordinate.
+     * @param y1       Start Y-coordinate.
+     * @param x2       Destination X-coordinate.
+     * @param y2       Destination Y-coordinate.
+     * @param captured The piece captured by the move, or null.
+     */
+    private void undoLastMove(int x1, int y1, int x2, int y2, Piece captured) {
+        board.undoMove(x1, y1, x2, y2, captured);
+        turn = turn.equals("White") ? "Black" : "White";
+        hash ^= Zobrist.moveKey(board.board[x1][y1], captured, x1, y1, x2, y2);
+        history.pop();
+        draw = false; // Moves are only applied while the game is not drawn
+        ply--;
     }
 }
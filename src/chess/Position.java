@@ -0,0 +1,195 @@
+package chess;
+
+import chess.composite.ChessTeam;
+import chess.pieces.Bishop;
+import chess.pieces.King;
+import chess.pieces.Knight;
+import chess.pieces.Pawn;
+import chess.pieces.Piece;
+import chess.pieces.Queen;
+import java.util.Arrays;
+
+/**
+ * Immutable snapshot of a game position.
+ * Pieces are stored as FEN letters in a compact 64-byte array, so a snapshot is cheap to
+ * take after every move and can be shared freely between threads without locking.
+ */
+public final class Position {
+    private final byte[] squares;     // FEN letter per square (y * 8 + x), or 0 if empty
+    private final String turn;        // Side to move ("White" or "Black")
+    private final int ply;            // Number of moves made since the start of the game
+    private final int halfmoveClock;  // Plies since the last capture or pawn move
+    private final long hash;          // Zobrist hash of the position
+    private final boolean draw;       // True if the game is drawn in this position
+
+    private Position(byte[] squares, String turn, int ply, int halfmoveClock, long hash, boolean draw) {
+        this.squares = squares;
+        this.turn = turn;
+        this.ply = ply;
+        this.halfmoveClock = halfmoveClock;
+        this.hash = hash;
+        this.draw = draw;
+    }
+
+    /**
+     * Takes a snapshot of a board. Only live pieces are visited, not all 64 squares.
+     *
+     * @param board         The chessboard.
+     * @param turn          Side to move.
+     * @param ply           Number of moves made so far.
+     * @param halfmoveClock Plies since the last capture or pawn move.
+     * @param hash          Zobrist hash of the position.
+     * @param draw          True if the game is drawn.
+     * @return The snapshot.
+     */
+    static Position of(ChessBoard board, String turn, int ply, int halfmoveClock, long hash, boolean draw) {
+        byte[] squares = new byte[64];
+        for (ChessTeam team : new ChessTeam[]{board.white, board.black}) {
+            for (int i = 0; i < team.size(); i++) {
+                squares[team.getSquare(i)] = fenLetter(team.getPiece(i));
+            }
+        }
+        return new Position(squares, turn, ply, halfmoveClock, hash, draw);
+    }
+
+    /**
+     * Returns the piece at the given position as a FEN letter.
+     *
+     * @param x X-coordinate.
+     * @param y Y-coordinate.
+     * @return Upper-case letter for White, lower-case for Black, or 0 if the square is empty.
+     */
+    public char getPiece(int x, int y) {
+        return (char) squares[y * 8 + x];
+    }
+
+    /**
+     * Gets the side to move.
+     *
+     * @return "White" or "Black".
+     */
+    public String getTurn() {
+        return turn;
+    }
+
+    /**
+     * Gets the number of moves made since the start of the game.
+     *
+     * @return The ply count.
+     */
+    public int getPly() {
+        return ply;
+    }
+
+    /**
+     * Gets the number of plies since the last capture or pawn move.
+     *
+     * @return The halfmove clock.
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * Gets the Zobrist hash of the position.
+     *
+     * @return The position hash.
+     */
+    public long getHash() {
+        return hash;
+    }
+
+    /**
+     * Checks whether the game is drawn in this position.
+     *
+     * @return True if the game is drawn.
+     */
+    public boolean isDraw() {
+        return draw;
+    }
+
+    /**
+     * Formats the position as a FEN string. Castling and en passant are not tracked by the
+     * game, so those fields are always "-".
+     *
+     * @return The FEN string.
+     */
+    public String toFen() {
+        StringBuilder fen = new StringBuilder(80);
+        for (int y = 7; y >= 0; y--) {
+            int empty = 0;
+            for (int x = 0; x < 8; x++) {
+                byte letter = squares[y * 8 + x];
+                if (letter == 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    fen.append(empty);
+                    empty = 0;
+                }
+                fen.append((char) letter);
+            }
+            if (empty > 0) {
+                fen.append(empty);
+            }
+            if (y > 0) {
+                fen.append('/');
+            }
+        }
+        return fen.append(turn.equals("White") ? " w" : " b")
+                .append(" - - ").append(halfmoveClock)
+                .append(' ').append(ply / 2 + 1)
+                .toString();
+    }
+
+    /**
+     * Compares two snapshots by pieces, side to move, ply, halfmove clock and draw flag.
+     *
+     * @param o The object to compare with.
+     * @return True if both snapshots describe the same position, false otherwise.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Position)) {
+            return false;
+        }
+        Position other = (Position) o;
+        return hash == other.hash // Cheap rejection before comparing the squares
+                && ply == other.ply
+                && halfmoveClock == other.halfmoveClock
+                && draw == other.draw
+                && turn.equals(other.turn)
+                && Arrays.equals(squares, other.squares);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(hash) * 31 + ply;
+    }
+
+    @Override
+    public String toString() {
+        return toFen();
+    }
+
+    /**
+     * Maps a piece to its FEN letter.
+     *
+     * @param piece The piece.
+     * @return The letter, upper case for White and lower case for Black.
+     */
+    private static byte fenLetter(Piece piece) {
+        char letter;
+        if (piece instanceof Pawn) letter = 'P';
+        else if (piece instanceof Knight) letter = 'N';
+        else if (piece instanceof Bishop) letter = 'B';
+        else if (piece instanceof Queen) letter = 'Q';
+        else if (piece instanceof King) letter = 'K';
+        else letter = 'R'; // Rook
+        return (byte) (piece.getColor().equals("White") ? letter : Character.toLowerCase(letter));
+    }
+}
@@ -0,0 +1,116 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * Stack of position hashes with a halfmove clock, used to detect threefold repetition
+ * and the 50-move rule. Both a game and a search push a hash after every move and
+ * (in a search) pop it again on undo.
+ */
+public class PositionHistory {
+    private long[] hashes;  // Hash of every position reached, oldest first
+    private int[] clocks;   // Halfmove clock (plies since the last capture or pawn move) per position
+    private int size;
+
+    /**
+     * Constructor for PositionHistory.
+     * Initializes an empty history.
+     */
+    public PositionHistory() {
+        this.hashes = new long[256];
+        this.clocks = new int[256];
+    }
+
+    /**
+     * Clears the history and records the starting position.
+     *
+     * @param hash          Hash of the starting position.
+     * @param halfmoveClock Halfmove clock of the starting position.
+     */
+    public void reset(long hash, int halfmoveClock) {
+        hashes[0] = hash;
+        clocks[0] = halfmoveClock;
+        size = 1;
+    }
+
+    /**
+     * Records the position reached by a move.
+     *
+     * @param hash         Hash of the new position.
+     * @param irreversible True if the move was a capture or a pawn move.
+     */
+    public void push(long hash, boolean irreversible) {
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            clocks = Arrays.copyOf(clocks, size * 2);
+        }
+        hashes[size] = hash;
+        clocks[size] = irreversible || size == 0 ? 0 : clocks[size - 1] + 1;
+        size++;
+    }
+
+    /**
+     * Removes the most recent position (used when a search undoes a move).
+     */
+    public void pop() {
+        size--;
+    }
+
+    /**
+     * Gets the number of plies since the last capture or pawn move.
+     *
+     * @return The halfmove clock of the current position.
+     */
+    public int getHalfmoveClock() {
+        return size == 0 ? 0 : clocks[size - 1];
+    }
+
+    /**
+     * Counts earlier occurrences of the current position. Only positions since the last
+     * irreversible move with the same side to move can repeat, so the scan stops there.
+     *
+     * @return Number of times the current position occurred before.
+     */
+    public int repetitionCount() {
+        if (size == 0) {
+            return 0;
+        }
+        long current = hashes[size - 1];
+        int oldest = Math.max(0, size - 1 - clocks[size - 1]);
+        int count = 0;
+        for (int i = size - 3; i >= oldest; i -= 2) {
+            if (hashes[i] == current) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the current position occurred before. A search treats this as a
+     * draw, since the side that allowed the cycle can always repeat it.
+     *
+     * @return True if the position is a repetition.
+     */
+    public boolean isRepetition() {
+        return repetitionCount() > 0;
+    }
+
+    /**
+     * Checks whether the current position has occurred three times.
+     *
+     * @return True if the game is drawn by threefold repetition.
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitionCount() >= 2;
+    }
+
+    /**
+     * Checks whether 50 moves by each side passed without a capture or pawn move.
+     *
+     * @return True if the game is drawn by the 50-move rule.
+     */
+    public boolean isFiftyMoveRule() {
+        return getHalfmoveClock() >= 100;
+    }
+}
@@ -0,0 +1,98 @@
+package chess;
+
+import chess.composite.ChessTeam;
+import chess.pieces.Bishop;
+import chess.pieces.King;
+import chess.pieces.Knight;
+import chess.pieces.Pawn;
+import chess.pieces.Piece;
+import chess.pieces.Queen;
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist hashing of chess positions.
+ * Every (piece, square) pair and the side to move get a random 64-bit key; a position's
+ * hash is the XOR of the keys that apply to it, so a move updates it in constant time.
+ */
+public final class Zobrist {
+    private static final long[][] PIECE_KEYS = new long[12][64]; // [piece index][square]
+    private static final long BLACK_TO_MOVE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EED_C4E5_5L); // Fixed seed: hashes are stable across runs
+        for (long[] keys : PIECE_KEYS) {
+            for (int square = 0; square < 64; square++) {
+                keys[square] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE = random.nextLong();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Computes the hash of a whole position from scratch.
+     *
+     * @param board The chessboard.
+     * @param turn  The side to move ("White" or "Black").
+     * @return The position hash.
+     */
+    public static long hash(ChessBoard board, String turn) {
+        long hash = turn.equals("Black") ? BLACK_TO_MOVE : 0L;
+        for (ChessTeam team : new ChessTeam[]{board.white, board.black}) {
+            for (int i = 0; i < team.size(); i++) {
+                hash ^= PIECE_KEYS[pieceIndex(team.getPiece(i))][team.getSquare(i)];
+            }
+        }
+        return hash;
+    }
+
+    /**
+     * Returns the value to XOR into a position hash to apply (or undo) a move.
+     *
+     * @param piece    The moving piece.
+     * @param captured The piece on the destination square before the move, or null.
+     * @param x1       Start X-coordinate.
+     * @param y1       Start Y-coordinate.
+     * @param x2       Destination X-coordinate.
+     * @param y2       Destination Y-coordinate.
+     * @return The hash delta, including the change of side to move.
+     */
+    public static long moveKey(Piece piece, Piece captured, int x1, int y1, int x2, int y2) {
+        long key = pieceKey(piece, x1, y1) ^ pieceKey(piece, x2, y2) ^ BLACK_TO_MOVE;
+        if (captured != null) {
+            key ^= pieceKey(captured, x2, y2);
+        }
+        return key;
+    }
+
+    /**
+     * Returns the key of a piece standing on a square.
+     *
+     * @param piece The piece.
+     * @param x     X-coordinate.
+     * @param y     Y-coordinate.
+     * @return The piece-square key.
+     */
+    public static long pieceKey(Piece piece, int x, int y) {
+        return PIECE_KEYS[pieceIndex(piece)][y * 8 + x];
+    }
+
+    /**
+     * Maps a piece to its row in the key table: six kinds per color.
+     *
+     * @param piece The piece.
+     * @return Index in [0, 12).
+     */
+    private static int pieceIndex(Piece piece) {
+        int kind;
+        if (piece instanceof Pawn) kind = 0;
+        else if (piece instanceof Knight) kind = 1;
+        else if (piece instanceof Bishop) kind = 2;
+        else if (piece instanceof Queen) kind = 4;
+        else if (piece instanceof King) kind = 5;
+        else kind = 3; // Rook
+        return piece.getColor().equals("White") ? kind : kind + 6;
+    }
+}
@@ -0,0 +1,142 @@
+package chess.analysis;
+
+/**
+ * Result of analysing a single position: best move, evaluation and blunder flag.
+ */
+public class AnalysisResult {
+    private final String position;   // FEN or "ply N" label of the analysed position
+    private final String bestMove;   // Best move in coordinate notation (e.g. "e2e4"), "-" if none, null on error
+    private final int score;         // Evaluation of the best move in centipawns, side to move's view
+    private final String playedMove; // Move actually played, or null if not known
+    private final int playedScore;   // Evaluation of the played move in centipawns
+    private final boolean blunder;   // True if the played move loses too much against the best move
+    private final String error;      // Why the position could not be analysed, or null
+
+    /**
+     * Constructor for AnalysisResult.
+     *
+     * @param position    Label of the analysed position.
+     * @param bestMove    Best move found, or "-" if the side to move has no legal move.
+     * @param score       Evaluation of the best move.
+     * @param playedMove  Move actually played, or null.
+     * @param playedScore Evaluation of the played move.
+     * @param blunder     True if the played move is a blunder.
+     */
+    public AnalysisResult(String position, String bestMove, int score,
+                          String playedMove, int playedScore, boolean blunder) {
+        this(position, bestMove, score, playedMove, playedScore, blunder, null);
+    }
+
+    private AnalysisResult(String position, String bestMove, int score,
+                           String playedMove, int playedScore, boolean blunder, String error) {
+        this.position = position;
+        this.bestMove = bestMove;
+        this.score = score;
+        this.playedMove = playedMove;
+        this.playedScore = playedScore;
+        this.blunder = blunder;
+        this.error = error;
+    }
+
+    /**
+     * Creates a result for an input that could not be analysed.
+     *
+     * @param position Label of the position.
+     * @param reason   Why the analysis failed.
+     * @return An error result.
+     */
+    public static AnalysisResult error(String position, String reason) {
+        return new AnalysisResult(position, null, 0, null, 0, false, reason);
+    }
+
+    /**
+     * Gets the label of the analysed position.
+     *
+     * @return FEN string or "ply N" label.
+     */
+    public String getPosition() {
+        return position;
+    }
+
+    /**
+     * Gets the best move found.
+     *
+     * @return Best move in coordinate notation, "-" if there is no legal move, or null on error.
+     */
+    public String getBestMove() {
+        return bestMove;
+    }
+
+    /**
+     * Gets the evaluation of the best move.
+     *
+     * @return Score in centipawns from the side to move's view.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Gets the move actually played.
+     *
+     * @return Played move in coordinate notation, or null.
+     */
+    public String getPlayedMove() {
+        return playedMove;
+    }
+
+    /**
+     * Gets the evaluation of the played move.
+     *
+     * @return Score in centipawns from the side to move's view.
+     */
+    public int getPlayedScore() {
+        return playedScore;
+    }
+
+    /**
+     * Checks whether the played move was flagged as a blunder.
+     *
+     * @return True if the played move is a blunder.
+     */
+    public boolean isBlunder() {
+        return blunder;
+    }
+
+    /**
+     * Checks whether the position could not be analysed.
+     *
+     * @return True if this is an error result.
+     */
+    public boolean isError() {
+        return error != null;
+    }
+
+    /**
+     * Gets the reason the position could not be analysed.
+     *
+     * @return The error message, or null if the analysis succeeded.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Formats the result as a tab-separated line:
+     * position, best move, score, played move, played score, blunder flag.
+     * Error results are written as: position, "error", reason.
+     *
+     * @return The formatted result.
+     */
+    @Override
+    public String toString() {
+        if (error != null) {
+            return position + "\terror\t" + error;
+        }
+        if (playedMove == null) {
+            return position + "\t" + bestMove + "\t" + score;
+        }
+        return position + "\t" + bestMove + "\t" + score + "\t" + playedMove + "\t" + playedScore
+                + (blunder ? "\tblunder" : "");
+    }
+}
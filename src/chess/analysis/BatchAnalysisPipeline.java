@@ -0,0 +1,206 @@
+package chess.analysis;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Offline pipeline that analyses a stream of positions or games in parallel.
+ * Input lines are fanned out over a fork-join pool, results are written in input
+ * order, and only a bounded window of lines is held in memory at any time.
+ * Progress is checkpointed so an interrupted job resumes where it stopped.
+ */
+public class BatchAnalysisPipeline {
+    private static final int CHECKPOINT_INTERVAL = 1000; // Input lines between checkpoints
+    private static final int WINDOW_PER_WORKER = 64;     // Lines in flight per worker thread
+
+    private final ForkJoinPool pool;
+    private final ThreadLocal<PositionAnalyzer> analyzers; // One reusable analyzer per worker
+    private final int window;
+
+    /**
+     * Constructor for BatchAnalysisPipeline.
+     *
+     * @param parallelism      Number of worker threads.
+     * @param depth            Search depth in plies.
+     * @param blunderThreshold Centipawn loss that marks a played move as a blunder.
+     * @throws IllegalArgumentException if the depth is below 1.
+     */
+    public BatchAnalysisPipeline(int parallelism, int depth, int blunderThreshold) {
+        if (depth < 1) {
+            // Checked here so a bad depth fails before run() touches the output
+            throw new IllegalArgumentException("Search depth must be at least 1: " + depth);
+        }
+        this.pool = new ForkJoinPool(parallelism);
+        this.analyzers = ThreadLocal.withInitial(() -> new PositionAnalyzer(depth, blunderThreshold));
+        this.window = parallelism * WINDOW_PER_WORKER;
+    }
+
+    /**
+     * Analyses every line of the input file and writes one tab-separated result line per
+     * analysed position, prefixed with the input line number. If the checkpoint file exists,
+     * the output is rolled back to the last checkpoint and the job continues from there.
+     * Nothing is written if the input cannot be opened or the output is shorter than the
+     * checkpoint says.
+     *
+     * @param input      File with one FEN or "game:" line per line.
+     * @param output     File the results are written to.
+     * @param checkpoint File that records progress.
+     * @return Number of positions analysed by this run.
+     * @throws IOException if reading or writing fails.
+     */
+    public long run(Path input, Path output, Path checkpoint) throws IOException {
+        long[] state = loadCheckpoint(checkpoint); // {lines done, output bytes}
+        long lines = state[0];
+        long offset = state[1];
+        long positions = 0;
+
+        // Opening in append mode leaves the output as it is until the checks below pass
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             FileOutputStream out = new FileOutputStream(output.toFile(), true);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8))) {
+
+            // The output must still hold everything the checkpoint covers, or resuming would corrupt it
+            long size = out.getChannel().size();
+            if (size < offset) {
+                throw new IOException("Output " + output + " is shorter than checkpoint " + checkpoint
+                        + " (" + size + " < " + offset + " bytes)");
+            }
+            // Drop anything written after the last checkpoint; it will be produced again
+            out.getChannel().truncate(offset);
+
+            for (long i = 0; i < lines; i++) {
+                if (reader.readLine() == null) {
+                    break; // Input is shorter than the checkpoint; nothing left to do
+                }
+            }
+
+            Deque<ForkJoinTask<List<AnalysisResult>>> inFlight = new ArrayDeque<>();
+            String line;
+            while (true) {
+                line = reader.readLine();
+                if (line != null) {
+                    String item = line;
+                    inFlight.addLast(pool.submit(() -> analyzers.get().analyze(item)));
+                    if (inFlight.size() < window) {
+                        continue;
+                    }
+                } else if (inFlight.isEmpty()) {
+                    break;
+                }
+
+                // Write the oldest line's results, keeping the output in input order
+                List<AnalysisResult> results = inFlight.pollFirst().join();
+                lines++;
+                for (AnalysisResult result : results) {
+                    String text = lines + "\t" + result + "\n";
+                    writer.write(text);
+                    offset += text.getBytes(StandardCharsets.UTF_8).length;
+                }
+                positions += results.size();
+
+                if (lines % CHECKPOINT_INTERVAL == 0) {
+                    writer.flush();
+                    out.getChannel().force(false);
+                    saveCheckpoint(checkpoint, lines, offset);
+                }
+            }
+
+            writer.flush();
+            out.getChannel().force(false);
+            saveCheckpoint(checkpoint, lines, offset);
+        }
+        return positions;
+    }
+
+    /**
+     * Shuts down the worker pool.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Reads the checkpoint file.
+     *
+     * @param checkpoint The checkpoint file.
+     * @return {lines done, output bytes}, or zeros if there is no checkpoint.
+     * @throws IOException if the file exists but cannot be read.
+     */
+    private static long[] loadCheckpoint(Path checkpoint) throws IOException {
+        if (!Files.exists(checkpoint)) {
+            return new long[]{0, 0};
+        }
+        String[] fields = Files.readString(checkpoint, StandardCharsets.UTF_8).trim().split("\\s+");
+        if (fields.length != 2) {
+            throw new IOException("Corrupt checkpoint: " + checkpoint);
+        }
+        return new long[]{Long.parseLong(fields[0]), Long.parseLong(fields[1])};
+    }
+
+    /**
+     * Atomically replaces the checkpoint file.
+     *
+     * @param checkpoint The checkpoint file.
+     * @param lines      Number of input lines whose results are durable.
+     * @param offset     Size of the output file covering those lines.
+     * @throws IOException if the checkpoint cannot be written.
+     */
+    private static void saveCheckpoint(Path checkpoint, long lines, long offset) throws IOException {
+        Path temp = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = ByteBuffer.wrap((lines + " " + offset + "\n").getBytes(StandardCharsets.UTF_8));
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true); // Contents must be on disk before the rename makes them visible
+        }
+        Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Command-line entry point.
+     * Usage: BatchAnalysisPipeline &lt;input&gt; &lt;output&gt; [checkpoint] [depth]
+     *
+     * @param args Command-line arguments.
+     * @throws IOException if reading or writing fails.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: BatchAnalysisPipeline <input> <output> [checkpoint] [depth]");
+            return;
+        }
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        Path checkpoint = Paths.get(args.length > 2 ? args[2] : args[1] + ".checkpoint");
+        int depth = args.length > 3 ? Integer.parseInt(args[3]) : 2;
+
+        BatchAnalysisPipeline pipeline =
+                new BatchAnalysisPipeline(Runtime.getRuntime().availableProcessors(), depth, 200);
+        long start = System.nanoTime();
+        try {
+            long positions = pipeline.run(input, output, checkpoint);
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Analysed %d positions in %.1f s (%.0f positions/s)%n",
+                    positions, seconds, positions / Math.max(seconds, 1e-9));
+        } finally {
+            pipeline.shutdown();
+        }
+    }
+}
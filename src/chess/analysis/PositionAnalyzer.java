@@ -0,0 +1,337 @@
+package chess.analysis;
+
+import chess.ChessBoard;
+import chess.ChessBoardBuilder;
+import chess.PositionHistory;
+import chess.Zobrist;
+import chess.composite.ChessTeam;
+import chess.pieces.Bishop;
+import chess.pieces.Knight;
+import chess.pieces.Pawn;
+import chess.pieces.Piece;
+import chess.pieces.Queen;
+import chess.pieces.Rook;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Analyses single positions and whole games with a fixed-depth alpha-beta search.
+ * An analyzer reuses one board and position history for every position it sees,
+ * so each worker thread should own its own instance.
+ */
+public class PositionAnalyzer {
+    private static final int MATE_SCORE = 100000;
+    private static final int INFINITY = 1000000;
+
+    private final ChessBoardBuilder builder; // Reused to set up every analysed position
+    private final int depth;                 // Search depth in plies
+    private final int blunderThreshold;      // Centipawn loss that marks a played move as a blunder
+    private final PositionHistory history;   // Positions on the current line, to cut off repetitions
+    private final int[][] moverSquares;      // Per-ply copy of the moving team's squares
+    private ChessBoard board;
+    private long hash;                       // Zobrist hash of the current board
+
+    /**
+     * Constructor for PositionAnalyzer.
+     *
+     * @param depth            Search depth in plies (at least 1).
+     * @param blunderThreshold Centipawn loss against the best move that counts as a blunder.
+     */
+    public PositionAnalyzer(int depth, int blunderThreshold) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Search depth must be at least 1: " + depth);
+        }
+        this.builder = new ChessBoardBuilder();
+        this.depth = depth;
+        this.blunderThreshold = blunderThreshold;
+        this.history = new PositionHistory();
+        this.moverSquares = new int[depth + 1][64];
+    }
+
+    /**
+     * Analyses one line of input. A line is either a FEN string, optionally followed by
+     * the move played in that position (e.g. "... w - - 0 1 e2e4"), or a game written as
+     * "game:" followed by coordinate moves from the standard starting position.
+     * Blank lines and lines starting with '#' produce no results.
+     *
+     * @param line The input line.
+     * @return One result per analysed position.
+     */
+    public List<AnalysisResult> analyze(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return List.of();
+        }
+        if (trimmed.startsWith("game:")) {
+            return analyzeGame(trimmed.substring(5).trim());
+        }
+        return List.of(analyzeFen(trimmed));
+    }
+
+    /**
+     * Analyses a FEN position with an optional trailing played move.
+     *
+     * @param fen The FEN line.
+     * @return The analysis result.
+     */
+    private AnalysisResult analyzeFen(String fen) {
+        String[] fields = fen.split("\\s+");
+        String played = null;
+        int fieldCount = fields.length;
+        if (fieldCount > 1 && isCoordinateMove(fields[fieldCount - 1])) {
+            played = fields[--fieldCount];
+        }
+        String position = String.join(" ", Arrays.copyOf(fields, fieldCount));
+
+        try {
+            board = builder.clear().setupFromFen(fields[0]).build();
+            String color = fieldCount > 1 && fields[1].equals("b") ? "Black" : "White";
+            int halfmoveClock = fieldCount > 4 ? Integer.parseInt(fields[4]) : 0;
+            hash = Zobrist.hash(board, color);
+            history.reset(hash, halfmoveClock);
+            return analyzePosition(position, color, played);
+        } catch (IllegalArgumentException e) {
+            return AnalysisResult.error(position, e.getMessage());
+        }
+    }
+
+    /**
+     * Replays a game from the standard starting position and analyses every move played.
+     *
+     * @param moves Space-separated coordinate moves.
+     * @return One result per ply, or an error result at the first illegal move.
+     */
+    private List<AnalysisResult> analyzeGame(String moves) {
+        List<AnalysisResult> results = new ArrayList<>();
+        board = builder.clear().setupStandardBoard().build();
+        String color = "White";
+        hash = Zobrist.hash(board, color);
+        history.reset(hash, 0);
+        int ply = 1;
+
+        for (String move : moves.split("\\s+")) {
+            if (move.isEmpty()) {
+                continue;
+            }
+            String label = "ply " + ply;
+            if (!isCoordinateMove(move)) {
+                results.add(AnalysisResult.error(label, "invalid move " + move));
+                break;
+            }
+            AnalysisResult result = analyzePosition(label, color, move);
+            results.add(result);
+            if (result.isError()) {
+                break;
+            }
+
+            int[] m = parseMove(move);
+            makeMove(m[0], m[1], m[2], m[3]);
+            color = opponent(color);
+            ply++;
+        }
+        return results;
+    }
+
+    /**
+     * Searches the current board and builds the result for it.
+     *
+     * @param position Label of the position.
+     * @param color    Side to move.
+     * @param played   Move played in the position, or null.
+     * @return The analysis result.
+     */
+    private AnalysisResult analyzePosition(String position, String color, String played) {
+        int alpha = -INFINITY;
+        int playedScore = 0;
+
+        // Search the played move first with a full window so its score is exact
+        if (played != null) {
+            int[] m = parseMove(played);
+            Piece piece = board.getPiece(m[0], m[1]);
+            Piece captured = board.getPiece(m[2], m[3]);
+            if (piece == null || !piece.getColor().equals(color) || !makeMove(m[0], m[1], m[2], m[3])) {
+                return AnalysisResult.error(position, "illegal move " + played);
+            }
+            playedScore = -search(opponent(color), depth - 1, -INFINITY, INFINITY);
+            undoMove(m[0], m[1], m[2], m[3], captured);
+            alpha = playedScore;
+        }
+
+        String bestMove = played;
+        int[] squares = moverSquares[depth];
+        int count = board.getTeam(color).copySquares(squares);
+        for (int i = 0; i < count; i++) {
+            int x1 = squares[i] % 8, y1 = squares[i] / 8;
+            Piece piece = board.getPiece(x1, y1);
+            for (int x2 = 0; x2 < 8; x2++) {
+                for (int y2 = 0; y2 < 8; y2++) {
+                    if (!piece.isValidMove(x1, y1, x2, y2)) {
+                        continue;
+                    }
+                    Piece captured = board.getPiece(x2, y2);
+                    if (!makeMove(x1, y1, x2, y2)) {
+                        continue;
+                    }
+                    int score = -search(opponent(color), depth - 1, -INFINITY, -alpha);
+                    undoMove(x1, y1, x2, y2, captured);
+                    if (score > alpha || bestMove == null) {
+                        alpha = Math.max(alpha, score);
+                        bestMove = formatMove(x1, y1, x2, y2);
+                    }
+                }
+            }
+        }
+
+        if (bestMove == null) {
+            // No legal move: checkmate or stalemate
+            int score = board.isKingInCheck(color) ? -MATE_SCORE : 0;
+            return new AnalysisResult(position, "-", score, null, 0, false);
+        }
+        if (played == null) {
+            return new AnalysisResult(position, bestMove, alpha, null, 0, false);
+        }
+        return new AnalysisResult(position, bestMove, alpha, played, playedScore,
+                alpha - playedScore >= blunderThreshold);
+    }
+
+    /**
+     * Negamax alpha-beta search over material.
+     *
+     * @param color     Side to move.
+     * @param remaining Remaining depth in plies.
+     * @param alpha     Lower bound of the search window.
+     * @param beta      Upper bound of the search window.
+     * @return Score of the position from the side to move's view.
+     */
+    private int search(String color, int remaining, int alpha, int beta) {
+        if (history.isRepetition() || history.isFiftyMoveRule()) {
+            return 0; // Drawn line: no need to search it any further
+        }
+        if (remaining == 0) {
+            return evaluate(color);
+        }
+
+        boolean hasLegalMove = false;
+        // Captures below reorder the piece lists, so iterate over a copy of the squares
+        int[] squares = moverSquares[remaining];
+        int count = board.getTeam(color).copySquares(squares);
+        for (int i = 0; i < count; i++) {
+            int x1 = squares[i] % 8, y1 = squares[i] / 8;
+            Piece piece = board.getPiece(x1, y1);
+            for (int x2 = 0; x2 < 8; x2++) {
+                for (int y2 = 0; y2 < 8; y2++) {
+                    if (!piece.isValidMove(x1, y1, x2, y2)) {
+                        continue;
+                    }
+                    Piece captured = board.getPiece(x2, y2);
+                    if (!makeMove(x1, y1, x2, y2)) {
+                        continue;
+                    }
+                    hasLegalMove = true;
+                    int score = -search(opponent(color), remaining - 1, -beta, -alpha);
+                    undoMove(x1, y1, x2, y2, captured);
+                    if (score > alpha) {
+                        alpha = score;
+                        if (alpha >= beta) {
+                            return alpha; // Cut-off
+                        }
+                    }
+                }
+            }
+        }
+
+        if (!hasLegalMove) {
+            // Prefer the quickest mate by scoring mates closer to the root higher
+            return board.isKingInCheck(color) ? -MATE_SCORE - remaining : 0;
+        }
+        return alpha;
+    }
+
+    /**
+     * Makes a move on the board and records the resulting position.
+     *
+     * @param x1 Start X-coordinate.
+     * @param y1 Start Y-coordinate.
+     * @param x2 Destination X-coordinate.
+     * @param y2 Destination Y-coordinate.
+     * @return True if the move was legal and made, false otherwise.
+     */
+    private boolean makeMove(int x1, int y1, int x2, int y2) {
+        Piece captured = board.getPiece(x2, y2);
+        if (!board.movePiece(x1, y1, x2, y2)) {
+            return false;
+        }
+        Piece piece = board.getPiece(x2, y2);
+        hash ^= Zobrist.moveKey(piece, captured, x1, y1, x2, y2);
+        history.push(hash, captured != null || piece instanceof Pawn);
+        return true;
+    }
+
+    /**
+     * Takes back a move made with {@link #makeMove(int, int, int, int)}.
+     *
+     * @param x1       Start X-coordinate.
+     * @param y1       Start Y-coordinate.
+     * @param x2       Destination X-coordinate.
+     * @param y2       Destination Y-coordinate.
+     * @param captured The piece captured by the move, or null.
+     */
+    private void undoMove(int x1, int y1, int x2, int y2, Piece captured) {
+        board.undoMove(x1, y1, x2, y2, captured);
+        hash ^= Zobrist.moveKey(board.getPiece(x1, y1), captured, x1, y1, x2, y2);
+        history.pop();
+    }
+
+    /**
+     * Evaluates the material balance of the board.
+     *
+     * @param color Side to evaluate for.
+     * @return Material balance in centipawns from the given side's view.
+     */
+    private int evaluate(String color) {
+        ChessTeam own = board.getTeam(color);
+        ChessTeam other = board.getTeam(opponent(color));
+        int score = 0;
+        for (int i = 0; i < own.size(); i++) {
+            score += pieceValue(own.getPiece(i));
+        }
+        for (int i = 0; i < other.size(); i++) {
+            score -= pieceValue(other.getPiece(i));
+        }
+        return score;
+    }
+
+    /**
+     * Returns the material value of a piece in centipawns.
+     *
+     * @param piece The piece.
+     * @return Its value (the King is not counted).
+     */
+    private static int pieceValue(Piece piece) {
+        if (piece instanceof Pawn) return 100;
+        if (piece instanceof Knight) return 320;
+        if (piece instanceof Bishop) return 330;
+        if (piece instanceof Rook) return 500;
+        if (piece instanceof Queen) return 900;
+        return 0;
+    }
+
+    private static String opponent(String color) {
+        return color.equals("White") ? "Black" : "White";
+    }
+
+    private static boolean isCoordinateMove(String s) {
+        return s.length() == 4
+                && s.charAt(0) >= 'a' && s.charAt(0) <= 'h' && s.charAt(1) >= '1' && s.charAt(1) <= '8'
+                && s.charAt(2) >= 'a' && s.charAt(2) <= 'h' && s.charAt(3) >= '1' && s.charAt(3) <= '8';
+    }
+
+    private static int[] parseMove(String move) {
+        return new int[]{move.charAt(0) - 'a', move.charAt(1) - '1', move.charAt(2) - 'a', move.charAt(3) - '1'};
+    }
+
+    private static String formatMove(int x1, int y1, int x2, int y2) {
+        return "" + (char) ('a' + x1) + (char) ('1' + y1) + (char) ('a' + x2) + (char) ('1' + y2);
+    }
+}
@@ -1,7 +1,8 @@
 package chess.composite;
 
 import chess.pieces.Piece;
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 // STRUCTURAL: Composite
@@ -9,52 +10,152 @@ import java.util.List;
 /**
  * Composite class representing a team of chess pieces.
  * Implements the Composite Pattern to manage multiple pieces as a group.
+ * The team is a piece list kept in sync with the board: live pieces are packed at
+ * indices [0, size()) and a square-to-index map makes add, remove and move O(1).
+ * Squares are numbered y * 8 + x.
+ *
+ * <p>Outside code only reads a team. The mutators are protected so that only the board,
+ * through its own subclass, can change the list and keep it in step with the grid.
  */
 public class ChessTeam {
-    private final List<Piece> pieces; // List of pieces belonging to the team
+    private final int[] squares;   // Square of each live piece
+    private final Piece[] pieces;  // Piece standing on squares[i]
+    private final int[] indexOf;   // Index into squares/pieces for each board square, or -1
+    private int size;              // Number of live pieces
 
     /**
      * Constructor for ChessTeam.
-     * Initializes an empty list of pieces.
+     * Initializes an empty team.
      */
     public ChessTeam() {
-        this.pieces = new ArrayList<>();
+        this.squares = new int[64];
+        this.pieces = new Piece[64];
+        this.indexOf = new int[64];
+        Arrays.fill(indexOf, -1);
     }
 
     /**
      * Adds a piece to the team.
      *
-     * @param piece The chess piece to be added.
+     * @param piece  The chess piece to be added.
+     * @param square The square the piece stands on.
+     * @throws IllegalArgumentException if a team piece already stands on the square.
      */
-    public void addPiece(Piece piece) {
-        pieces.add(piece);
+    protected void addPiece(Piece piece, int square) {
+        if (indexOf[square] >= 0) {
+            throw new IllegalArgumentException("Square " + square + " already holds a team piece");
+        }
+        squares[size] = square;
+        pieces[size] = piece;
+        indexOf[square] = size;
+        size++;
     }
 
     /**
-     * Removes a piece from the team.
+     * Removes the piece on a square from the team. The last piece in the list takes
+     * the freed slot, so the order of the remaining pieces may change.
      *
-     * @param piece The chess piece to be removed.
+     * @param square The square of the piece to be removed.
+     * @throws IllegalArgumentException if no team piece stands on the square.
      */
-    public void removePiece(Piece piece) {
-        pieces.remove(piece);
+    protected void removePiece(int square) {
+        int index = indexOf[square];
+        if (index < 0) {
+            throw new IllegalArgumentException("No team piece on square " + square); // Checked before any change
+        }
+        int last = --size;
+        squares[index] = squares[last];
+        pieces[index] = pieces[last];
+        indexOf[squares[index]] = index;
+        pieces[last] = null;
+        indexOf[square] = -1;
     }
 
     /**
-     * Checks whether a piece belongs to the team.
+     * Moves a team piece to another square. The piece keeps its index in the list.
      *
-     * @param piece The piece to check.
-     * @return True if the piece is part of the team, false otherwise.
+     * @param from The square the piece stands on.
+     * @param to   The destination square (must not hold a team piece).
+     * @throws IllegalArgumentException if no team piece stands on from, or one stands on to.
      */
-    public boolean contains(Piece piece) {
-        return pieces.contains(piece);
+    protected void movePiece(int from, int to) {
+        int index = indexOf[from];
+        if (index < 0 || indexOf[to] >= 0) {
+            throw new IllegalArgumentException("Cannot move team piece from square " + from + " to " + to);
+        }
+        squares[index] = to;
+        indexOf[to] = index;
+        indexOf[from] = -1;
+    }
+
+    /**
+     * Removes every piece from the team.
+     */
+    protected void clear() {
+        for (int i = 0; i < size; i++) {
+            indexOf[squares[i]] = -1;
+            pieces[i] = null;
+        }
+        size = 0;
+    }
+
+    /**
+     * Checks whether a team piece stands on a square.
+     *
+     * @param square The square to check.
+     * @return True if a piece of this team is on the square, false otherwise.
+     */
+    public boolean contains(int square) {
+        return indexOf[square] >= 0;
+    }
+
+    /**
+     * Returns the number of live pieces in the team.
+     *
+     * @return Team size.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the square of the piece at a list index.
+     *
+     * @param index Index in [0, size()).
+     * @return The square (y * 8 + x).
+     */
+    public int getSquare(int index) {
+        return squares[index];
+    }
+
+    /**
+     * Returns the piece at a list index.
+     *
+     * @param index Index in [0, size()).
+     * @return The piece.
+     */
+    public Piece getPiece(int index) {
+        return pieces[index];
+    }
+
+    /**
+     * Copies the squares of all live pieces into an array, so a caller can iterate over
+     * them while moving pieces around.
+     *
+     * @param dest Array with room for at least size() squares.
+     * @return The number of squares copied.
+     */
+    public int copySquares(int[] dest) {
+        System.arraycopy(squares, 0, dest, 0, size);
+        return size;
     }
 
     /**
      * Returns the list of all pieces in the team.
      *
-     * @return List of team pieces.
+     * @return Read-only view of the team pieces, valid until the team next changes.
      */
     public List<Piece> getPieces() {
-        return new ArrayList<>(pieces); // Returns a copy to prevent modification
+        return Collections.unmodifiableList(Arrays.asList(pieces).subList(0, size)); // View, no copy
     }
 }
@@ -0,0 +1,621 @@
+package chess.journal;
+
+import chess.ChessGame;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Write-ahead journal of the moves of all live games.
+ * Every game start, move and end is appended as a fixed-size record to memory-mapped
+ * segment files. Appending is a few memory writes; a background thread forces the
+ * segments to disk in batches (group commit), and {@link #commit()} waits for that.
+ * After a crash, opening the journal again and calling {@link #recover()} rebuilds
+ * every game that had not ended.
+ *
+ * <p>Old segments are retired so recovery cost follows the live games, not the whole
+ * history: after the journal rolls over, the flusher thread deletes the segments older than
+ * the START record of every live game, and on open the live games are rewritten into fresh segments when
+ * most scanned records belong to finished games. A small "base" file names the oldest
+ * segment recovery must read.
+ *
+ * <p>Record layout (16 bytes): game id (8), move (2), type (1), unused (1), checksum (4).
+ */
+public class MoveJournal implements AutoCloseable {
+    private static final int RECORD_SIZE = 16;
+    private static final long DEFAULT_SEGMENT_SIZE = 64L << 20;  // 4M records per segment
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 5; // Longest wait before unrequested flushes
+
+    private static final byte START = 1;
+    private static final byte MOVE = 2;
+    private static final byte END = 3;
+
+    private static final String BASE_FILE = "base";
+
+    private final Path directory;
+    private final long segmentSize;
+    private final long flushIntervalMillis;
+    private final Thread flusher;
+
+    private MappedByteBuffer current;   // Segment being appended to
+    private int segmentIndex;           // Index of the current segment file
+    private int position;               // Append offset within the current segment
+    private final List<MappedByteBuffer> retired = new ArrayList<>(); // Full segments not forced yet
+    private long written;               // Records appended so far
+    private long durable;               // Records known to be on disk
+    private int commitWaiters;          // Threads blocked in commit()
+    private IOException failure;        // Error from the flusher; fails every later append and commit
+    private boolean closed;
+    private long nextGameId;
+    private Map<Long, GameLog> pending;  // Games found on open, until recover() is called
+    private int baseIndex;              // Oldest segment recovery has to read; only the flusher changes it after open
+    private boolean releaseRequested;   // Set on rollover so the flusher retires old segments
+    private final Map<Long, Integer> liveGames = new HashMap<>();       // Live game id -> segment of its START
+    private final TreeMap<Integer, Integer> liveStarts = new TreeMap<>(); // Segment -> live games started there
+    private boolean compacting;         // True while live games are rewritten on open
+
+    /**
+     * Opens (or creates) a journal with default segment size and flush interval.
+     *
+     * @param directory Directory holding the segment files.
+     * @throws IOException if the journal cannot be opened.
+     */
+    public MoveJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_FLUSH_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Opens (or creates) a journal. Existing segments are scanned up to the first
+     * incomplete record; anything after it is discarded and appending continues there.
+     *
+     * @param directory           Directory holding the segment files.
+     * @param segmentSize         Size of each segment file in bytes.
+     * @param flushIntervalMillis Longest time appended records stay unflushed when nobody commits.
+     * @throws IOException if the journal cannot be opened.
+     */
+    public MoveJournal(Path directory, long segmentSize, long flushIntervalMillis) throws IOException {
+        if (segmentSize < RECORD_SIZE || segmentSize % RECORD_SIZE != 0 || segmentSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        Files.createDirectories(directory);
+        scan();
+
+        this.flusher = new Thread(this::flushLoop, "move-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Rebuilds every game that was started but not ended, replaying their moves in
+     * parallel. The returned games are attached to this journal. A game that replays to a
+     * draw is ended and left out; its END record was lost before the restart. A game whose
+     * moves cannot be replayed is ended, left out and reported as dropped. Call once, after
+     * opening.
+     *
+     * @return The live games and the dropped ones.
+     */
+    public RecoveryResult recover() {
+        Map<Long, GameLog> logs;
+        synchronized (this) {
+            logs = pending;
+            pending = null;
+        }
+        Map<Long, ChessGame> games = new ConcurrentHashMap<>();
+        Map<Long, String> dropped = new ConcurrentHashMap<>();
+        if (logs == null) {
+            return new RecoveryResult(games, dropped);
+        }
+
+        logs.entrySet().parallelStream().forEach(entry -> {
+            GameLog log = entry.getValue();
+            ChessGame game;
+            try {
+                game = ChessGame.replay(log.moves, log.size);
+            } catch (IllegalArgumentException e) {
+                // Never hand out a game that differs from what was played
+                dropped.put(entry.getKey(), e.getMessage());
+                endQuietly(entry.getKey());
+                return;
+            }
+            if (game.isDraw()) {
+                endQuietly(entry.getKey()); // Finished game; it can take no more moves
+                return;
+            }
+            game.setJournal(this, entry.getKey());
+            games.put(entry.getKey(), game);
+        });
+        return new RecoveryResult(games, dropped);
+    }
+
+    /**
+     * Records the end of a game found on recovery that is not handed out.
+     *
+     * @param gameId The game id.
+     */
+    private void endQuietly(long gameId) {
+        try {
+            endGame(gameId);
+        } catch (RuntimeException e) {
+            // The game is still left out; the next recovery finds it again and retries
+        }
+    }
+
+    /**
+     * Starts a new journaled game.
+     *
+     * @return The new game, attached to this journal.
+     * @throws IllegalStateException if the journal is closed.
+     * @throws UncheckedIOException  if the journal cannot record the start.
+     */
+    public ChessGame newGame() {
+        long gameId;
+        synchronized (this) {
+            gameId = nextGameId++;
+        }
+        append(gameId, 0, START);
+        ChessGame game = new ChessGame();
+        game.setJournal(this, gameId);
+        return game;
+    }
+
+    /**
+     * Records a move. Called by ChessGame after each successful move.
+     *
+     * @param gameId The game id.
+     * @param x1     Start X-coordinate.
+     * @param y1     Start Y-coordinate.
+     * @param x2     Destination X-coordinate.
+     * @param y2     Destination Y-coordinate.
+     * @throws IllegalStateException if the journal is closed.
+     * @throws UncheckedIOException  if the journal cannot record the move.
+     */
+    public void recordMove(long gameId, int x1, int y1, int x2, int y2) {
+        append(gameId, x1 << 9 | y1 << 6 | x2 << 3 | y2, MOVE);
+    }
+
+    /**
+     * Records that a game ended, so it is not recovered after a restart.
+     *
+     * @param gameId The game id.
+     * @throws IllegalStateException if the journal is closed.
+     * @throws UncheckedIOException  if the journal cannot record the end.
+     */
+    public void endGame(long gameId) {
+        append(gameId, 0, END);
+    }
+
+    /**
+     * Waits until every record appended before this call is on disk. Concurrent
+     * callers share the same flush.
+     *
+     * @throws IOException if flushing failed or the thread was interrupted.
+     */
+    public synchronized void commit() throws IOException {
+        long target = written;
+        commitWaiters++;
+        notifyAll(); // Wake the flusher without waiting for the interval
+        try {
+            while (durable < target) {
+                if (failure != null) {
+                    throw failure;
+                }
+                if (closed && !flusher.isAlive()) {
+                    throw new IOException("Journal is closed");
+                }
+                wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for journal commit");
+        } finally {
+            commitWaiters--;
+        }
+    }
+
+    /**
+     * Flushes all records and stops the flusher thread.
+     *
+     * @throws IOException if the final flush failed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing journal");
+        }
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    /**
+     * Appends one record to the current segment, rolling over to a new segment when full.
+     *
+     * @param gameId The game id.
+     * @param move   The packed move, or 0.
+     * @param type   The record type.
+     * @throws IllegalStateException if the journal is closed.
+     * @throws UncheckedIOException  if a segment cannot be mapped or an earlier flush failed.
+     */
+    private synchronized void append(long gameId, int move, byte type) {
+        if (closed) {
+            throw new IllegalStateException("Journal is closed");
+        }
+        if (failure != null) {
+            // The flusher has stopped; a record accepted now could never become durable
+            throw new UncheckedIOException("Journal flush failed", failure);
+        }
+        if (position == segmentSize) {
+            MappedByteBuffer next;
+            try {
+                next = mapSegment(segmentIndex + 1);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // Nothing changed; the next append retries
+            }
+            retired.add(current);
+            current = next;
+            segmentIndex++;
+            position = 0;
+            if (!compacting) {
+                releaseRequested = true; // File work is left to the flusher, off the appending thread
+            }
+        }
+        current.putLong(position, gameId);
+        current.putShort(position + 8, (short) move);
+        current.put(position + 10, type);
+        current.putInt(position + 12, checksum(gameId, move, type));
+        position += RECORD_SIZE;
+        if (type == START) {
+            liveGames.put(gameId, segmentIndex);
+            liveStarts.merge(segmentIndex, 1, Integer::sum);
+        } else if (type == END) {
+            Integer start = liveGames.remove(gameId);
+            if (start != null) {
+                liveStarts.merge(start, -1, (count, delta) -> count + delta == 0 ? null : count + delta);
+            }
+        }
+        if (written++ == durable) {
+            notifyAll(); // First unflushed record: start the flusher's interval
+        }
+    }
+
+    /**
+     * Background loop that forces appended records to disk. It flushes at once when a
+     * thread waits in commit() and otherwise at most every flush interval, so records
+     * appended while a flush is running are written together by the next one. After a
+     * rollover it also retires old segments, once the records that ended their games are
+     * on disk.
+     */
+    private void flushLoop() {
+        while (true) {
+            List<MappedByteBuffer> toForce = new ArrayList<>();
+            long target;
+            boolean last;
+            int release = -1;       // Oldest segment to keep, or -1 if nothing is to be released
+            long releaseNextGameId = 0;
+            synchronized (this) {
+                try {
+                    while (!closed && durable == written) {
+                        wait(); // Nothing to flush until append() signals the first new record
+                    }
+                    if (!closed && commitWaiters == 0) {
+                        wait(flushIntervalMillis); // Let the batch grow; commit() cuts this short
+                    }
+                } catch (InterruptedException e) {
+                    closed = true; // Treat interruption as shutdown after a last flush
+                }
+                target = written;
+                last = closed;
+                toForce.addAll(retired);
+                retired.clear();
+                toForce.add(current);
+                if (releaseRequested) {
+                    releaseRequested = false;
+                    release = liveStarts.isEmpty() ? segmentIndex : liveStarts.firstKey();
+                    releaseNextGameId = nextGameId;
+                }
+            }
+
+            IOException error = null;
+            try {
+                for (MappedByteBuffer buffer : toForce) {
+                    buffer.force();
+                }
+            } catch (UncheckedIOException e) {
+                error = e.getCause();
+            }
+            if (error == null && release > baseIndex) {
+                releaseSegments(release, releaseNextGameId);
+            }
+
+            synchronized (this) {
+                if (error != null) {
+                    failure = error;
+                } else {
+                    durable = Math.max(durable, target);
+                }
+                notifyAll();
+                if (last || error != null) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes the segments older than the START record of every live game. They only
+     * hold records of finished games, so recovery no longer needs them. Runs on the
+     * flusher thread, after the records that ended those games were forced to disk.
+     *
+     * @param oldest     The oldest segment still holding a live game's START.
+     * @param nextGameId The next game id at the time oldest was taken.
+     */
+    private void releaseSegments(int oldest, long nextGameId) {
+        try {
+            writeBase(oldest, nextGameId);
+            for (int index = baseIndex; index < oldest; index++) {
+                Files.deleteIfExists(segmentPath(index));
+            }
+            baseIndex = oldest;
+        } catch (IOException e) {
+            // Old segments stay on disk; releasing them is retried at the next rollover
+        }
+    }
+
+    /**
+     * Reads the existing segments from the base segment on, collects the moves of games
+     * that have not ended, and positions the append offset after the last complete record.
+     * Compacts the journal if most of what was read belongs to finished games.
+     *
+     * @throws IOException if a segment cannot be read.
+     */
+    private void scan() throws IOException {
+        long baseNextGameId = 0;
+        Path basePath = directory.resolve(BASE_FILE);
+        if (Files.exists(basePath)) {
+            String[] fields = Files.readString(basePath).trim().split("\\s+");
+            if (fields.length != 2) {
+                throw new IOException("Corrupt journal base: " + basePath);
+            }
+            baseIndex = Integer.parseInt(fields[0]);
+            baseNextGameId = Long.parseLong(fields[1]);
+        }
+
+        List<Integer> indices = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.matches("segment-\\d{8}\\.journal"))
+                    .forEach(name -> indices.add(Integer.parseInt(name.substring(8, 16))));
+        }
+        indices.sort(null);
+
+        Map<Long, GameLog> logs = new HashMap<>();
+        long maxGameId = -1;
+        long scanned = 0;
+        segmentIndex = baseIndex;
+        position = 0;
+        current = null;
+
+        int expected = baseIndex;
+        for (int index : indices) {
+            if (index < baseIndex) {
+                Files.deleteIfExists(segmentPath(index)); // Released before the last shutdown
+                continue;
+            }
+            if (index != expected) {
+                break; // Gap in the numbering: nothing after it can be trusted
+            }
+            expected++;
+            MappedByteBuffer buffer = mapSegment(index);
+            int end = 0;
+            while (end < segmentSize) {
+                long gameId = buffer.getLong(end);
+                int move = buffer.getShort(end + 8) & 0xFFFF;
+                byte type = buffer.get(end + 10);
+                if (type < START || type > END || buffer.getInt(end + 12) != checksum(gameId, move, type)) {
+                    break; // First incomplete record marks the end of the journal
+                }
+                maxGameId = Math.max(maxGameId, gameId);
+                if (type == START) {
+                    logs.put(gameId, new GameLog(index));
+                } else if (type == MOVE) {
+                    GameLog log = logs.get(gameId);
+                    if (log != null) {
+                        log.add((short) move);
+                    }
+                } else {
+                    logs.remove(gameId);
+                }
+                end += RECORD_SIZE;
+                scanned++;
+            }
+            current = buffer;
+            segmentIndex = index;
+            position = end;
+            if (end < segmentSize) {
+                break; // Later segments were written after a lost record
+            }
+        }
+
+        if (current == null) {
+            current = mapSegment(baseIndex);
+        } else {
+            // Drop everything after the append point so stale records are never replayed
+            for (int p = position; p < segmentSize; p += 8) {
+                if (current.getLong(p) != 0) {
+                    current.putLong(p, 0);
+                }
+            }
+            current.force();
+        }
+        for (int index : indices) {
+            if (index > segmentIndex) {
+                Files.deleteIfExists(segmentPath(index)); // Unfinished compaction or records after a loss
+            }
+        }
+
+        nextGameId = Math.max(baseNextGameId, maxGameId + 1);
+        pending = logs;
+
+        long live = 0;
+        for (Map.Entry<Long, GameLog> entry : logs.entrySet()) {
+            liveGames.put(entry.getKey(), entry.getValue().startSegment);
+            liveStarts.merge(entry.getValue().startSegment, 1, Integer::sum);
+            live += 1 + entry.getValue().size;
+        }
+        if (live * 2 < scanned) {
+            compact(logs);
+        }
+    }
+
+    /**
+     * Rewrites the records of the live games into fresh segments and deletes the old ones.
+     * The new segments start one index past a gap, so if this is interrupted, the next
+     * open stops at the gap, discards the partial copy and keeps the old segments.
+     *
+     * @param logs The live games found by scan().
+     * @throws IOException if the new segments cannot be written.
+     */
+    private void compact(Map<Long, GameLog> logs) throws IOException {
+        int oldBase = baseIndex;
+        int oldLast = segmentIndex;
+        int start = segmentIndex + 2;
+
+        current = mapSegment(start);
+        segmentIndex = start;
+        position = 0;
+        liveGames.clear();
+        liveStarts.clear();
+        compacting = true;
+        try {
+            for (Map.Entry<Long, GameLog> entry : logs.entrySet()) {
+                GameLog log = entry.getValue();
+                append(entry.getKey(), 0, START);
+                for (int i = 0; i < log.size; i++) {
+                    append(entry.getKey(), log.moves[i] & 0xFFFF, MOVE);
+                }
+            }
+        } finally {
+            compacting = false;
+        }
+
+        for (MappedByteBuffer buffer : retired) {
+            buffer.force();
+        }
+        retired.clear();
+        current.force();
+        durable = written;
+
+        // Switch recovery to the new segments only once they are complete on disk
+        writeBase(start, nextGameId);
+        baseIndex = start;
+        for (int index = oldBase; index <= oldLast; index++) {
+            Files.deleteIfExists(segmentPath(index));
+        }
+    }
+
+    /**
+     * Atomically replaces the base file.
+     *
+     * @param index      The oldest segment recovery has to read.
+     * @param nextGameId The lowest game id not yet handed out.
+     * @throws IOException if the file cannot be written.
+     */
+    private void writeBase(int index, long nextGameId) throws IOException {
+        Path base = directory.resolve(BASE_FILE);
+        Path temp = directory.resolve(BASE_FILE + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer data = ByteBuffer.wrap((index + " " + nextGameId + "\n").getBytes(StandardCharsets.UTF_8));
+            while (data.hasRemaining()) {
+                channel.write(data);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, base, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Maps a segment file, creating it at full size if needed.
+     *
+     * @param index The segment index.
+     * @return The mapped segment.
+     * @throws IOException if the file cannot be mapped.
+     */
+    private MappedByteBuffer mapSegment(int index) throws IOException {
+        try (FileChannel channel = FileChannel.open(segmentPath(index),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize); // Mapping outlives the channel
+        }
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format("segment-%08d.journal", index));
+    }
+
+    /**
+     * Checksum of a record, so torn or stale writes are detected on recovery.
+     *
+     * @param gameId The game id.
+     * @param move   The packed move.
+     * @param type   The record type.
+     * @return The checksum.
+     */
+    private static int checksum(long gameId, int move, byte type) {
+        long h = (gameId ^ ((long) move << 40 | (long) type << 56)) * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 29;
+        h *= 0xBF58476D1CE4E5B9L;
+        h ^= h >>> 32;
+        return (int) h;
+    }
+
+    /**
+     * Moves of one game, packed as x1 << 9 | y1 << 6 | x2 << 3 | y2.
+     */
+    private static class GameLog {
+        private final int startSegment; // Segment holding the game's START record
+        private short[] moves = new short[64];
+        private int size;
+
+        private GameLog(int startSegment) {
+            this.startSegment = startSegment;
+        }
+
+        private void add(short move) {
+            if (size == moves.length) {
+                moves = Arrays.copyOf(moves, size * 2);
+            }
+            moves[size++] = move;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package chess.journal;
+
+import chess.ChessGame;
+import java.util.Map;
+
+/**
+ * Result of {@link MoveJournal#recover()}: the games that were live before the restart,
+ * and the games that had to be dropped because their journaled moves could not be replayed.
+ */
+public class RecoveryResult {
+    private final Map<Long, ChessGame> games; // Live games by game id, attached to the journal
+    private final Map<Long, String> dropped;  // Dropped game id -> why it could not be replayed
+
+    /**
+     * Constructor for RecoveryResult.
+     *
+     * @param games   Live games by game id.
+     * @param dropped Reasons for dropped games by game id.
+     */
+    RecoveryResult(Map<Long, ChessGame> games, Map<Long, String> dropped) {
+        this.games = games;
+        this.dropped = dropped;
+    }
+
+    /**
+     * Gets the recovered live games.
+     *
+     * @return Live games by game id.
+     */
+    public Map<Long, ChessGame> getGames() {
+        return games;
+    }
+
+    /**
+     * Gets the games that were dropped. They are ended in the journal, so they are only
+     * reported once.
+     *
+     * @return Why each dropped game could not be replayed, by game id.
+     */
+    public Map<Long, String> getDropped() {
+        return dropped;
+    }
+}